@@ -5,6 +5,7 @@ import com.nautil.admin.service.EmailService;
 import com.nautil.admin.service.ExcelService;
 import com.nautil.admin.service.TaskResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -13,20 +14,29 @@ import org.springframework.web.bind.annotation.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.function.Supplier;
 
 @Controller
 public class AdminController {
 
+    static final String STAGE_EMAIL = "étape 6";
+
     @Autowired
+    @Lazy
     private ExcelService excelService;
 
     @Autowired
+    @Lazy
     private EmailService emailService;
 
     @Autowired
     private NautilConfig config;
 
+    @Autowired
+    private RateLimitInterceptor rateLimitInterceptor;
+
     /**
      * Page principale d'administration
      */
@@ -125,32 +135,29 @@ public class AdminController {
             @RequestParam(required = false) String emailSubject) {
 
         Map<String, Object> response = new HashMap<>();
-        TaskResult excelResult = excelService.runAllExcelTasks();
-
-        if (!excelResult.isSuccess()) {
-            response.put("success", false);
-            response.put("message", "Erreur traitement Excel : " + excelResult.getMessage());
-            response.put("logs", excelResult.getLogs());
-            return ResponseEntity.ok(response);
-        }
 
-        // Envoi email
         String dateStr = LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
         String subject = (emailSubject != null && !emailSubject.isEmpty())
                 ? emailSubject
                 : "Vérification Quotidienne NAUTIL - " + dateStr;
 
-        TaskResult emailResult = emailService.sendVerificationEmail(emailTo, subject, null);
+        Workflow workflow = withEmailStage(excelService.excelWorkflow(),
+                () -> emailService.sendVerificationEmail(emailTo, subject, null));
+        TaskResult workflowResult = workflow.run();
 
-        // Fusionner les logs
-        excelResult.getLogs().add("=== ÉTAPE 6 : Envoi Email ===");
-        excelResult.getLogs().addAll(emailResult.getLogs());
+        if (!workflowResult.isSuccess()) {
+            response.put("success", false);
+            response.put("message", "Erreur traitement Excel : " + workflowResult.getMessage());
+            response.put("logs", workflowResult.getLogs());
+            return ResponseEntity.ok(response);
+        }
 
+        TaskResult emailResult = workflow.result(STAGE_EMAIL);
         response.put("success", emailResult.isSuccess());
         response.put("message", emailResult.isSuccess()
                 ? "Workflow complet terminé avec succès !"
                 : "Excel OK, mais erreur email : " + emailResult.getMessage());
-        response.put("logs", excelResult.getLogs());
+        response.put("logs", workflowResult.getLogs());
 
         return ResponseEntity.ok(response);
     }
@@ -180,6 +187,24 @@ public class AdminController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * API : Compteurs de la limitation de débit (supervision)
+     */
+    @GetMapping("/api/rate-limit/stats")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> rateLimitStats() {
+        return ResponseEntity.ok(rateLimitInterceptor.getStats());
+    }
+
+    /**
+     * Ajouter l'envoi de l'email au workflow Excel. L'email lit le fichier de vérification :
+     * il part dès son dernier écrivain terminé (étape 4), sans attendre le nettoyage du template
+     */
+    static Workflow withEmailStage(Workflow excelWorkflow, Supplier<TaskResult> sendEmail) {
+        return excelWorkflow.stage(STAGE_EMAIL, "=== ÉTAPE 6 : Envoi Email ===", Workflow.OnFailure.CONTINUE,
+                sendEmail, List.of(ExcelService.FILE_VERIFICATION), List.of());
+    }
+
     // Utilitaire : convertir TaskResult en Map
     private ResponseEntity<Map<String, Object>> toResponse(TaskResult result) {
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,77 @@
+package com.nautil;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+
+/**
+ * Exécution d'entraînement pour l'archive AppCDS (profil Maven "cds") : le workflow est
+ * déclenché par les vrais endpoints HTTP afin que les classes de la première requête
+ * (DispatcherServlet, Jackson, Thymeleaf, XSSF) soient chargées et archivées.
+ * Le code retour est transmis à main via SpringApplication.exit.
+ */
+@Component
+@ConditionalOnProperty(name = "nautil.startup.training", havingValue = "true")
+public class CdsTrainingRunner implements ApplicationRunner, ExitCodeGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(CdsTrainingRunner.class);
+
+    private static final int TRAINING_ROWS = 50;
+
+    @Autowired
+    private NautilConfig config;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Environment environment;
+
+    private int exitCode = 1;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        File dir = Files.createTempDirectory("nautil-cds").toFile();
+        File verification = SampleWorkbooks.createVerificationFile(dir, config, TRAINING_ROWS);
+        File template = SampleWorkbooks.createTemplateFile(dir, TRAINING_ROWS);
+
+        config.setVerificationFilePath(verification.getAbsolutePath());
+        config.setTemplateFilePath(template.getAbsolutePath());
+        config.setOutputDir(new File(dir, "output").getAbsolutePath());
+
+        String baseUrl = "http://127.0.0.1:" + environment.getProperty("local.server.port");
+        HttpClient client = HttpClient.newHttpClient();
+
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> runAll = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/run-all"))
+                        .POST(HttpRequest.BodyPublishers.noBody()).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        JsonNode body = objectMapper.readTree(runAll.body());
+        boolean success = page.statusCode() == 200 && runAll.statusCode() == 200 && body.path("success").asBoolean();
+        log.info("Exécution d'entraînement terminée : page HTTP {}, run-all HTTP {} - {}",
+                page.statusCode(), runAll.statusCode(), body.path("message").asText());
+        exitCode = success ? 0 : 1;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
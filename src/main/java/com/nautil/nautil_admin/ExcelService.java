@@ -1,11 +1,13 @@
 package com.nautil;
 
 import com.nautil.admin.config.NautilConfig;
+import jakarta.annotation.PreDestroy;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
@@ -13,8 +15,11 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 @Service
+@Lazy
 public class ExcelService {
 
     private static final Logger log = LoggerFactory.getLogger(ExcelService.class);
@@ -22,11 +27,31 @@ public class ExcelService {
     @Autowired
     private NautilConfig config;
 
-    private static final int DATA_START_ROW = 3; // Row index 3 = Excel row 4 (0-based)
+    @Autowired
+    private TemplateBaseline templateBaseline;
+
+    static final int DATA_START_ROW = 3; // Row index 3 = Excel row 4 (0-based)
     private static final int DATA_START_COL_B = 1; // Column B (0-based)
     private static final int DATA_END_COL_G = 6;   // Column G (0-based)
-    private static final int DATA_START_COL_A = 0; // Column A (0-based)
-    private static final int DATA_END_COL_F = 5;   // Column F (0-based)
+    static final int DATA_START_COL_A = 0; // Column A (0-based)
+    static final int DATA_END_COL_F = 5;   // Column F (0-based)
+
+    // Fichiers du workflow Excel (clés logiques : le chemin du fichier de vérification change à l'étape 1)
+    public static final String FILE_VERIFICATION = "fichier de vérification";
+    public static final String FILE_TEMPLATE = "template";
+
+    // Étapes du workflow Excel ; STAGE_AFTER_TX3 est le dernier écrivain du fichier de vérification
+    public static final String STAGE_RENAME = "étape 1";
+    public static final String STAGE_VUE_GLOBALE = "étape 2";
+    public static final String STAGE_CLEAR_TX = "étape 3";
+    public static final String STAGE_AFTER_TX3 = "étape 4";
+    public static final String STAGE_TEMPLATE = "étape 5";
+
+    private final ExecutorService workflowExecutor = Executors.newFixedThreadPool(3, runnable -> {
+        Thread thread = new Thread(runnable, "nautil-workflow");
+        thread.setDaemon(true);
+        return thread;
+    });
 
     /**
      * Étape 1 : Renommer le fichier de vérification avec la date du jour
@@ -224,6 +249,7 @@ public class ExcelService {
 
     /**
      * Étape 5 : Traitement du fichier template.xlsx - suppression données A4:F(fin)
+     * (ou restauration de la référence vierge si nautil.excel.template-baseline.enabled)
      */
     public TaskResult clearTemplateFile() {
         TaskResult result = new TaskResult();
@@ -236,6 +262,14 @@ public class ExcelService {
                 return result;
             }
 
+            // Chemin rapide : recopie de la référence vierge, POI seulement si elle est périmée
+            if (config.isTemplateBaselineEnabled() && templateBaseline.restore(file)) {
+                result.addLog("✅ Template restauré depuis la référence vierge");
+                result.setSuccess(true);
+                result.setMessage("Template vidé (référence vierge restaurée)");
+                return result;
+            }
+
             try (FileInputStream fis = new FileInputStream(file);
                  XSSFWorkbook workbook = new XSSFWorkbook(fis)) {
 
@@ -249,6 +283,16 @@ public class ExcelService {
                 result.setSuccess(true);
                 result.setMessage("Template vidé (A4:F" + (DATA_START_ROW + clearedRows) + ")");
             }
+
+            if (config.isTemplateBaselineEnabled()) {
+                try {
+                    templateBaseline.capture(file);
+                    result.addLog("✅ Référence vierge du template enregistrée");
+                } catch (IOException e) {
+                    log.warn("Enregistrement de la référence du template impossible", e);
+                    result.addLog("⚠️ Référence vierge non enregistrée : " + e.getMessage());
+                }
+            }
         } catch (Exception e) {
             log.error("Erreur suppression template", e);
             result.setSuccess(false);
@@ -258,59 +302,36 @@ public class ExcelService {
     }
 
     /**
-     * Exécuter toutes les étapes Excel en séquence
+     * Exécuter toutes les étapes Excel (graphe de dépendances)
      */
     public TaskResult runAllExcelTasks() {
-        TaskResult finalResult = new TaskResult();
-        finalResult.setSuccess(true);
-
-        // Étape 1 : Renommage
-        TaskResult step1 = renameVerificationFile();
-        finalResult.getLogs().add("=== ÉTAPE 1 : Renommage fichier ===");
-        finalResult.getLogs().addAll(step1.getLogs());
-        if (!step1.isSuccess()) {
-            finalResult.addLog("⚠️ " + step1.getMessage() + " (traitement continué)");
-        }
-
-        // Étape 2 : Vue Globale
-        TaskResult step2 = addDateRowInVueGlobale();
-        finalResult.getLogs().add("=== ÉTAPE 2 : Ajout ligne Vue Globale ===");
-        finalResult.getLogs().addAll(step2.getLogs());
-        if (!step2.isSuccess()) {
-            finalResult.setSuccess(false);
-            finalResult.addLog("❌ " + step2.getMessage());
-            finalResult.setMessage("Erreur étape 2 : " + step2.getMessage());
-            return finalResult;
-        }
-
-        // Étape 3 : TX1/TX2/TX3
-        TaskResult step3 = clearTxSheets();
-        finalResult.getLogs().add("=== ÉTAPE 3 : Nettoyage TX1/TX2/TX3 ===");
-        finalResult.getLogs().addAll(step3.getLogs());
-        if (!step3.isSuccess()) {
-            finalResult.setSuccess(false);
-            finalResult.setMessage("Erreur étape 3 : " + step3.getMessage());
-            return finalResult;
-        }
-
-        // Étape 4 : Onglets après TX3
-        TaskResult step4 = clearSheetsAfterTx3();
-        finalResult.getLogs().add("=== ÉTAPE 4 : Nettoyage onglets après TX3 ===");
-        finalResult.getLogs().addAll(step4.getLogs());
-        if (!step4.isSuccess()) {
-            finalResult.addLog("⚠️ " + step4.getMessage());
-        }
+        return excelWorkflow().run();
+    }
 
-        // Étape 5 : Template
-        TaskResult step5 = clearTemplateFile();
-        finalResult.getLogs().add("=== ÉTAPE 5 : Nettoyage template.xlsx ===");
-        finalResult.getLogs().addAll(step5.getLogs());
-        if (!step5.isSuccess()) {
-            finalResult.addLog("⚠️ " + step5.getMessage());
-        }
+    /**
+     * Graphe des étapes Excel, déduit des fichiers lus et écrits : la chaîne du fichier
+     * de vérification (1 → 2 → 3 → 4) et le nettoyage du template (5) s'exécutent en parallèle.
+     * Échec des étapes 2 et 3 : la chaîne est interrompue ; étapes 1, 4 et 5 : on continue.
+     */
+    public Workflow excelWorkflow() {
+        List<String> verification = List.of(FILE_VERIFICATION);
+        List<String> template = List.of(FILE_TEMPLATE);
+        return new Workflow(workflowExecutor, "Traitement Excel terminé avec succès")
+                .stage(STAGE_RENAME, "=== ÉTAPE 1 : Renommage fichier ===",
+                        Workflow.OnFailure.CONTINUE, this::renameVerificationFile, verification, verification)
+                .stage(STAGE_VUE_GLOBALE, "=== ÉTAPE 2 : Ajout ligne Vue Globale ===",
+                        Workflow.OnFailure.ABORT, this::addDateRowInVueGlobale, verification, verification)
+                .stage(STAGE_CLEAR_TX, "=== ÉTAPE 3 : Nettoyage TX1/TX2/TX3 ===",
+                        Workflow.OnFailure.ABORT, this::clearTxSheets, verification, verification)
+                .stage(STAGE_AFTER_TX3, "=== ÉTAPE 4 : Nettoyage onglets après TX3 ===",
+                        Workflow.OnFailure.CONTINUE, this::clearSheetsAfterTx3, verification, verification)
+                .stage(STAGE_TEMPLATE, "=== ÉTAPE 5 : Nettoyage template.xlsx ===",
+                        Workflow.OnFailure.CONTINUE, this::clearTemplateFile, template, template);
+    }
 
-        finalResult.setMessage("Traitement Excel terminé avec succès");
-        return finalResult;
+    @PreDestroy
+    public void shutdownWorkflowExecutor() {
+        workflowExecutor.shutdown();
     }
 
     // ===================== Méthodes privées utilitaires =====================
@@ -318,32 +339,24 @@ public class ExcelService {
     /**
      * Effacer les données dans une plage de colonnes à partir de la ligne startRow
      */
-    private int clearSheetDataRange(Sheet sheet, int startRow, int startCol, int endCol) {
+    private int clearSheetDataRange(Sheet sheet, int startRow, int startCol, int endCol) throws IOException {
+        SheetScan scan = SheetScan.of(sheet);
+        long window = SheetScan.columnMask(startCol, endCol);
         int clearedCount = 0;
-        int lastRow = sheet.getLastRowNum();
-
-        for (int rowIdx = startRow; rowIdx <= lastRow; rowIdx++) {
-            Row row = sheet.getRow(rowIdx);
-            if (row == null) continue;
-
-            boolean hasData = false;
-            for (int colIdx = startCol; colIdx <= endCol; colIdx++) {
-                Cell cell = row.getCell(colIdx);
-                if (cell != null && cell.getCellType() != CellType.BLANK) {
-                    hasData = true;
-                    break;
-                }
-            }
 
-            if (hasData) {
-                for (int colIdx = startCol; colIdx <= endCol; colIdx++) {
-                    Cell cell = row.getCell(colIdx);
-                    if (cell != null) {
-                        cell.setBlank();
-                    }
+        for (int pos = scan.firstPosition(startRow); pos < scan.size(); pos++) {
+            long dataMask = scan.maskAt(pos) & window;
+            if (dataMask == 0L) continue;
+
+            // Seules les cellules non vides de la plage sont touchées via POI
+            Row row = sheet.getRow(scan.rowIndexAt(pos));
+            for (long bits = dataMask; bits != 0L; bits &= bits - 1) {
+                Cell cell = row.getCell(Long.numberOfTrailingZeros(bits));
+                if (cell != null) {
+                    cell.setBlank();
                 }
-                clearedCount++;
             }
+            clearedCount++;
         }
 
         return clearedCount;
@@ -352,20 +365,8 @@ public class ExcelService {
     /**
      * Trouver la dernière ligne avec des données
      */
-    private int findLastDataRow(Sheet sheet) {
-        int lastRow = sheet.getLastRowNum();
-        // Chercher en remontant la dernière ligne non vide
-        for (int i = lastRow; i >= 0; i--) {
-            Row row = sheet.getRow(i);
-            if (row != null) {
-                for (Cell cell : row) {
-                    if (cell != null && cell.getCellType() != CellType.BLANK) {
-                        return i;
-                    }
-                }
-            }
-        }
-        return 0;
+    private int findLastDataRow(Sheet sheet) throws IOException {
+        return SheetScan.of(sheet).lastDataRow();
     }
 
     /**
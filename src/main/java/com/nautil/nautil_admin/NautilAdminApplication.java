@@ -2,12 +2,18 @@ package com.nautil.nautil_admin;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class NautilAdminApplication {
 
 	public static void main(String[] args) {
-		SpringApplication.run(NautilAdminApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(NautilAdminApplication.class, args);
+
+		// Exécution d'entraînement AppCDS : arrêt une fois le workflow exécuté
+		if (context.getEnvironment().getProperty("nautil.startup.training", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
@@ -33,6 +33,30 @@ public class NautilConfig {
     @Value("${nautil.email.from}")
     private String emailFrom;
 
+    @Value("${nautil.excel.template-baseline.enabled:false}")
+    private boolean templateBaselineEnabled;
+
+    @Value("${nautil.excel.template-baseline.max-age-days:7}")
+    private int templateBaselineMaxAgeDays;
+
+    @Value("${nautil.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${nautil.ratelimit.endpoint-capacity:10}")
+    private int rateLimitEndpointCapacity;
+
+    @Value("${nautil.ratelimit.endpoint-refill-per-minute:10}")
+    private int rateLimitEndpointRefillPerMinute;
+
+    @Value("${nautil.ratelimit.client-capacity:3}")
+    private int rateLimitClientCapacity;
+
+    @Value("${nautil.ratelimit.client-refill-per-minute:3}")
+    private int rateLimitClientRefillPerMinute;
+
+    @Value("${nautil.ratelimit.max-concurrent:1}")
+    private int rateLimitMaxConcurrent;
+
     public String getVerificationFilePath() { return verificationFilePath; }
     public String getTemplateFilePath() { return templateFilePath; }
     public String getOutputDir() { return outputDir; }
@@ -42,6 +66,14 @@ public class NautilConfig {
     public String getSheetTx3() { return sheetTx3; }
     public String getDefaultEmailTo() { return defaultEmailTo; }
     public String getEmailFrom() { return emailFrom; }
+    public boolean isTemplateBaselineEnabled() { return templateBaselineEnabled; }
+    public int getTemplateBaselineMaxAgeDays() { return templateBaselineMaxAgeDays; }
+    public boolean isRateLimitEnabled() { return rateLimitEnabled; }
+    public int getRateLimitEndpointCapacity() { return rateLimitEndpointCapacity; }
+    public int getRateLimitEndpointRefillPerMinute() { return rateLimitEndpointRefillPerMinute; }
+    public int getRateLimitClientCapacity() { return rateLimitClientCapacity; }
+    public int getRateLimitClientRefillPerMinute() { return rateLimitClientRefillPerMinute; }
+    public int getRateLimitMaxConcurrent() { return rateLimitMaxConcurrent; }
 
     public void setVerificationFilePath(String verificationFilePath) { this.verificationFilePath = verificationFilePath; }
     public void setTemplateFilePath(String templateFilePath) { this.templateFilePath = templateFilePath; }
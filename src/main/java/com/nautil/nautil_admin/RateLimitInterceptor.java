@@ -0,0 +1,195 @@
+package com.nautil;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Protection des endpoints lourds (chargement + sauvegarde de classeur) :
+ * seau à jetons par endpoint et par client, plafond global d'opérations simultanées
+ * (hors envoi d'email seul, qui n'ouvre pas de classeur).
+ * Toute requête au-delà est rejetée immédiatement en 429, sans mise en file d'attente.
+ *
+ * Seules les requêtes aboutissant à une méthode de contrôleur sont comptées, sous le motif
+ * de leur mapping : un chemin inconnu (ressource statique, 404) ne crée ni seau ni compteur.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private static final String PERMIT_ATTRIBUTE = RateLimitInterceptor.class.getName() + ".permit";
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // Endpoints sans chargement de classeur : limités en débit, hors plafond de concurrence
+    private static final Set<String> UNCAPPED_ENDPOINTS = Set.of("/api/step/send-email");
+
+    private final NautilConfig config;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrent;
+    private final Semaphore workbookPermits;
+
+    private final Map<String, TokenBucket> endpointBuckets = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+    private final Map<String, EndpointCounters> counters = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+
+    private static final class EndpointCounters {
+        final LongAdder accepted = new LongAdder();
+        final LongAdder rejectedEndpoint = new LongAdder();
+        final LongAdder rejectedClient = new LongAdder();
+        final LongAdder rejectedConcurrency = new LongAdder();
+    }
+
+    @Autowired
+    public RateLimitInterceptor(NautilConfig config, ObjectMapper objectMapper) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.maxConcurrent = Math.max(1, config.getRateLimitMaxConcurrent());
+        this.workbookPermits = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!config.isRateLimitEnabled() || !(handler instanceof HandlerMethod)) {
+            return true;
+        }
+
+        String endpoint = endpointOf(request);
+        String client = request.getRemoteAddr();
+        EndpointCounters endpointCounters = counters.computeIfAbsent(endpoint, key -> new EndpointCounters());
+
+        // Plafond de concurrence vérifié en premier : un rejet "traitement en cours"
+        // ne consomme pas le quota du client
+        boolean capped = !UNCAPPED_ENDPOINTS.contains(endpoint);
+        if (capped && !workbookPermits.tryAcquire()) {
+            endpointCounters.rejectedConcurrency.increment();
+            return reject(response, 1, "Traitement déjà en cours, réessayer plus tard");
+        }
+
+        TokenBucket clientBucket = clientBucket(endpoint, client);
+        if (!clientBucket.tryConsume()) {
+            releaseIf(capped);
+            endpointCounters.rejectedClient.increment();
+            return reject(response, clientBucket.secondsUntilNextToken(),
+                    "Trop de requêtes de ce client sur " + endpoint + ", réessayer plus tard");
+        }
+
+        TokenBucket endpointBucket = endpointBuckets.computeIfAbsent(endpoint, key ->
+                new TokenBucket(config.getRateLimitEndpointCapacity(), config.getRateLimitEndpointRefillPerMinute()));
+        if (!endpointBucket.tryConsume()) {
+            clientBucket.refund();
+            releaseIf(capped);
+            endpointCounters.rejectedEndpoint.increment();
+            return reject(response, endpointBucket.secondsUntilNextToken(),
+                    "Trop de requêtes sur " + endpoint + ", réessayer plus tard");
+        }
+
+        if (capped) {
+            request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        endpointCounters.accepted.increment();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            workbookPermits.release();
+        }
+    }
+
+    /**
+     * Compteurs exposés pour la supervision
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> {
+                    EndpointCounters c = entry.getValue();
+                    Map<String, Object> values = new LinkedHashMap<>();
+                    values.put("accepted", c.accepted.sum());
+                    values.put("rejectedEndpoint", c.rejectedEndpoint.sum());
+                    values.put("rejectedClient", c.rejectedClient.sum());
+                    values.put("rejectedConcurrency", c.rejectedConcurrency.sum());
+                    endpoints.put(entry.getKey(), values);
+                });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", config.isRateLimitEnabled());
+        stats.put("maxConcurrent", maxConcurrent);
+        stats.put("inFlight", maxConcurrent - workbookPermits.availablePermits());
+        stats.put("trackedClients", clientBuckets.size());
+        stats.put("endpoints", endpoints);
+        return stats;
+    }
+
+    /**
+     * Motif du mapping du contrôleur (ensemble fini), à défaut le chemin de la requête
+     */
+    private static String endpointOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getServletPath();
+    }
+
+    private TokenBucket clientBucket(String endpoint, String client) {
+        sweepIdleClients();
+        return clientBuckets.computeIfAbsent(endpoint + "|" + client, key ->
+                new TokenBucket(config.getRateLimitClientCapacity(), config.getRateLimitClientRefillPerMinute()));
+    }
+
+    /**
+     * Oublier les clients inactifs (seau plein), au plus une fois par intervalle
+     */
+    private void sweepIdleClients() {
+        long now = System.nanoTime();
+        long last = lastSweep.get();
+        if (now - last >= SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            clientBuckets.values().removeIf(TokenBucket::isFull);
+        }
+    }
+
+    private void releaseIf(boolean acquired) {
+        if (acquired) {
+            workbookPermits.release();
+        }
+    }
+
+    private boolean reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        log.warn("Requête rejetée (429) : {}", message);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("success", false);
+        body.put("message", message);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), body);
+        return false;
+    }
+}
@@ -0,0 +1,100 @@
+package com.nautil;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Génération de classeurs d'exemple reproduisant la structure des fichiers NAUTIL
+ * (exécution d'entraînement AppCDS, benchmarks et tests de charge)
+ */
+public final class SampleWorkbooks {
+
+    private static final int HEADER_ROWS = 3; // Lignes 1 à 3 : en-têtes
+
+    private SampleWorkbooks() {}
+
+    /**
+     * Créer un fichier de vérification : Vue Globale, TX1/TX2/TX3 remplis sur B4:G
+     * et un onglet supplémentaire après TX3
+     */
+    public static File createVerificationFile(File dir, NautilConfig config, int dataRows) throws IOException {
+        return createVerificationFile(dir, config.getSheetGlobal(),
+                new String[] { config.getSheetTx1(), config.getSheetTx2(), config.getSheetTx3() }, dataRows);
+    }
+
+    /**
+     * Variante sans configuration Spring : noms d'onglets fournis explicitement
+     */
+    public static File createVerificationFile(File dir, String sheetGlobal, String[] txSheets, int dataRows) throws IOException {
+        File file = new File(dir, "Vérification Quotidiennes NAUTIL 2000-01-01_V01.xlsx");
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet global = workbook.createSheet(sheetGlobal);
+            writeHeaders(global, 0, 6);
+            for (int i = 0; i < dataRows; i++) {
+                global.createRow(HEADER_ROWS + i).createCell(0).setCellValue("2000-01-01");
+            }
+
+            for (String sheetName : txSheets) {
+                Sheet sheet = workbook.createSheet(sheetName);
+                writeHeaders(sheet, 0, 6);
+                writeData(sheet, dataRows, 1, 6);
+            }
+
+            Sheet annexe = workbook.createSheet("Annexe");
+            writeHeaders(annexe, 0, 6);
+            writeData(annexe, dataRows, 0, 6);
+
+            write(workbook, file);
+        }
+        return file;
+    }
+
+    /**
+     * Créer un template rempli sur A4:F
+     */
+    public static File createTemplateFile(File dir, int dataRows) throws IOException {
+        File file = new File(dir, "template.xlsx");
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("Template");
+            writeHeaders(sheet, 0, 5);
+            writeData(sheet, dataRows, 0, 5);
+            write(workbook, file);
+        }
+        return file;
+    }
+
+    private static void writeHeaders(Sheet sheet, int startCol, int endCol) {
+        for (int rowIdx = 0; rowIdx < HEADER_ROWS; rowIdx++) {
+            Row row = sheet.createRow(rowIdx);
+            for (int colIdx = startCol; colIdx <= endCol; colIdx++) {
+                row.createCell(colIdx).setCellValue("En-tête " + (rowIdx + 1) + "." + (colIdx + 1));
+            }
+        }
+    }
+
+    private static void writeData(Sheet sheet, int dataRows, int startCol, int endCol) {
+        for (int i = 0; i < dataRows; i++) {
+            Row row = sheet.createRow(HEADER_ROWS + i);
+            for (int colIdx = startCol; colIdx <= endCol; colIdx++) {
+                if (colIdx % 2 == 0) {
+                    row.createCell(colIdx).setCellValue(i * 10 + colIdx);
+                } else {
+                    row.createCell(colIdx).setCellValue("OK");
+                }
+            }
+        }
+    }
+
+    private static void write(XSSFWorkbook workbook, File file) throws IOException {
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            workbook.write(fos);
+        }
+    }
+}
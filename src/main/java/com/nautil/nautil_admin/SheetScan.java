@@ -0,0 +1,166 @@
+package com.nautil;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Vue colonnaire d'un onglet, décodée une seule fois depuis la partie XML de l'onglet
+ * (lecture StAX, sans passer par les objets Row/Cell de POI). Les questions "dernière
+ * ligne non vide" et "lignes à vider" sont ensuite de simples boucles sur des tableaux
+ * primitifs.
+ *
+ * Chaque ligne physique est représentée par son index et un masque 64 bits des cellules
+ * non vides (bit c = colonne c pour les colonnes 0 à 62, bit 63 = au moins une cellule
+ * non vide au-delà). Une cellule est non vide si elle a une valeur ou une formule.
+ */
+final class SheetScan {
+
+    static final int MAX_COLUMN = 62;
+    private static final long BEYOND_MAX_COLUMN = 1L << 63;
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final int[] rowIndexes;  // index 0-based des lignes physiques, croissants
+    private final long[] masks;      // masque des cellules non vides de chaque ligne
+    private final int size;
+
+    private SheetScan(int[] rowIndexes, long[] masks, int size) {
+        this.rowIndexes = rowIndexes;
+        this.masks = masks;
+        this.size = size;
+    }
+
+    /**
+     * Décoder l'onglet depuis sa partie XML, telle que chargée depuis le fichier :
+     * à appeler avant de modifier l'onglet
+     */
+    static SheetScan of(Sheet sheet) throws IOException {
+        if (!(sheet instanceof XSSFSheet)) {
+            throw new IllegalArgumentException("Onglet non XSSF : " + sheet.getSheetName());
+        }
+        try (InputStream in = ((XSSFSheet) sheet).getPackagePart().getInputStream()) {
+            return parse(in);
+        }
+    }
+
+    /**
+     * Décoder une partie XML d'onglet (xl/worksheets/sheetN.xml)
+     */
+    static SheetScan parse(InputStream sheetXml) throws IOException {
+        int[] rowIndexes = new int[64];
+        long[] masks = new long[64];
+        int size = 0;
+
+        try {
+            XMLStreamReader reader = XML.createXMLStreamReader(sheetXml);
+            int rowIdx = -1;
+            int colIdx = -1;
+            long mask = 0L;
+            boolean inRow = false;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (!MAIN_NS.equals(reader.getNamespaceURI())) continue;
+                    String name = reader.getLocalName();
+                    if ("row".equals(name)) {
+                        String r = reader.getAttributeValue(null, "r");
+                        rowIdx = (r != null) ? Integer.parseInt(r) - 1 : rowIdx + 1;
+                        colIdx = -1;
+                        mask = 0L;
+                        inRow = true;
+                    } else if ("c".equals(name)) {
+                        String r = reader.getAttributeValue(null, "r");
+                        colIdx = (r != null) ? columnOf(r) : colIdx + 1;
+                    } else if ("v".equals(name) || "f".equals(name) || "is".equals(name)) {
+                        mask |= colIdx <= MAX_COLUMN ? 1L << colIdx : BEYOND_MAX_COLUMN;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && MAIN_NS.equals(reader.getNamespaceURI())) {
+                    if ("row".equals(reader.getLocalName()) && inRow) {
+                        if (size == rowIndexes.length) {
+                            rowIndexes = Arrays.copyOf(rowIndexes, size * 2);
+                            masks = Arrays.copyOf(masks, size * 2);
+                        }
+                        rowIndexes[size] = rowIdx;
+                        masks[size] = mask;
+                        size++;
+                        inRow = false;
+                    } else if ("sheetData".equals(reader.getLocalName())) {
+                        break;
+                    }
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IOException("Onglet illisible : " + e.getMessage(), e);
+        }
+
+        return new SheetScan(rowIndexes, masks, size);
+    }
+
+    /**
+     * Masque couvrant les colonnes startCol..endCol (incluses)
+     */
+    static long columnMask(int startCol, int endCol) {
+        checkColumns(startCol, endCol);
+        return ((1L << (endCol + 1)) - 1) & (-1L << startCol);
+    }
+
+    /**
+     * Dernière ligne contenant au moins une cellule non vide, 0 si aucune
+     */
+    int lastDataRow() {
+        for (int pos = size - 1; pos >= 0; pos--) {
+            if (masks[pos] != 0L) {
+                return rowIndexes[pos];
+            }
+        }
+        return 0;
+    }
+
+    int size() { return size; }
+    int rowIndexAt(int position) { return rowIndexes[position]; }
+    long maskAt(int position) { return masks[position]; }
+
+    /**
+     * Première position dont l'index de ligne est >= startRow (recherche dichotomique)
+     */
+    int firstPosition(int startRow) {
+        int pos = Arrays.binarySearch(rowIndexes, 0, size, startRow);
+        return pos >= 0 ? pos : -pos - 1;
+    }
+
+    /**
+     * Index 0-based de la colonne d'une référence de cellule ("B12" → 1)
+     */
+    static int columnOf(String cellRef) {
+        int col = 0;
+        for (int i = 0; i < cellRef.length(); i++) {
+            char ch = cellRef.charAt(i);
+            if (ch < 'A' || ch > 'Z') break;
+            col = col * 26 + (ch - 'A' + 1);
+        }
+        return col - 1;
+    }
+
+    private static void checkColumns(int startCol, int endCol) {
+        if (startCol < 0 || endCol > MAX_COLUMN || startCol > endCol) {
+            throw new IllegalArgumentException("Plage de colonnes non prise en charge : " + startCol + ".." + endCol);
+        }
+    }
+}
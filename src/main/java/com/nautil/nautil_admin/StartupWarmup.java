@@ -0,0 +1,67 @@
+package com.nautil;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+/**
+ * Démarrage rapide : mesure du temps de démarrage et préchargement en tâche de fond
+ * du système de types XMLBeans
+ */
+@Component
+public class StartupWarmup {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    @Value("${nautil.startup.prewarm:true}")
+    private boolean prewarm;
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info("Application prête en {} ms (uptime JVM)", ManagementFactory.getRuntimeMXBean().getUptime());
+
+        if (prewarm) {
+            Thread thread = new Thread(this::preTouchPoi, "poi-prewarm");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Charger les classes XSSF et les schémas XMLBeans en écrivant puis relisant un classeur en mémoire
+     */
+    void preTouchPoi() {
+        long start = System.nanoTime();
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("prewarm");
+            Cell cell = sheet.createRow(0).createCell(0);
+
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd/MM/yyyy"));
+            cell.setCellStyle(dateStyle);
+            cell.setCellValue(java.sql.Date.valueOf(LocalDate.now()));
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            workbook.write(bos);
+
+            try (XSSFWorkbook reloaded = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()))) {
+                SheetScan.of(reloaded.getSheetAt(0)).lastDataRow();
+            }
+            log.info("Préchargement POI terminé en {} ms", (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            log.warn("Préchargement POI impossible : {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.nautil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Properties;
+
+/**
+ * Référence vierge du template : copie du template enregistrée juste après un nettoyage
+ * POI réussi, avec son empreinte SHA-256. Les nettoyages suivants se contentent de
+ * recopier cette référence sur le template (copie en flux + remplacement atomique),
+ * l'empreinte étant vérifiée pendant la copie.
+ *
+ * La référence est considérée périmée (et le nettoyage repasse par POI) si elle est
+ * absente, corrompue, issue d'un autre fichier template, plus ancienne que l'âge maximal,
+ * ou si le template a été modifié depuis la capture ailleurs que dans les valeurs de la zone
+ * vidée par le nettoyage (empreinte {@link TemplateFingerprint} enregistrée dans le
+ * manifeste) : la restauration donne alors exactement le résultat du nettoyage POI.
+ */
+@Component
+public class TemplateBaseline {
+
+    private static final Logger log = LoggerFactory.getLogger(TemplateBaseline.class);
+
+    private static final String BASELINE_FILE = "template.baseline.xlsx";
+    private static final String MANIFEST_FILE = "template.baseline.properties";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private NautilConfig config;
+
+    /**
+     * Restaurer le template depuis la référence ; false si la référence est périmée
+     */
+    public synchronized boolean restore(File template) {
+        File baseline = new File(config.getOutputDir(), BASELINE_FILE);
+        Properties manifest = readManifest();
+
+        if (manifest == null || !baseline.exists()) {
+            return false;
+        }
+        if (!template.getAbsolutePath().equals(manifest.getProperty("source"))) {
+            log.info("Référence du template périmée : fichier template modifié");
+            return false;
+        }
+        String expectedChecksum = manifest.getProperty("sha256");
+        String expectedLayout = manifest.getProperty("layout");
+        if (expectedChecksum == null || expectedLayout == null) {
+            log.info("Référence du template périmée : manifeste incomplet");
+            return false;
+        }
+        long capturedAt;
+        try {
+            capturedAt = Long.parseLong(manifest.getProperty("captured", ""));
+        } catch (NumberFormatException e) {
+            log.info("Référence du template périmée : date de capture invalide");
+            return false;
+        }
+        Duration age = Duration.ofMillis(System.currentTimeMillis() - capturedAt);
+        if (age.toDays() >= config.getTemplateBaselineMaxAgeDays()) {
+            log.info("Référence du template périmée : capturée il y a {} jour(s)", age.toDays());
+            return false;
+        }
+
+        Path temp = null;
+        try {
+            // Template modifié hors zone de données depuis la capture : la référence écraserait ces modifications
+            if (!fingerprint(template).equals(expectedLayout)) {
+                log.info("Référence du template périmée : template modifié hors zone de données");
+                return false;
+            }
+
+            temp = Files.createTempFile(template.getAbsoluteFile().getParentFile().toPath(), ".template", ".tmp");
+            String checksum = copyWithChecksum(baseline, temp.toFile());
+            if (!checksum.equals(expectedChecksum)) {
+                log.warn("Référence du template corrompue (empreinte {} au lieu de {})", checksum, expectedChecksum);
+                Files.deleteIfExists(temp);
+                return false;
+            }
+            replace(temp, template.toPath());
+            return true;
+        } catch (IOException e) {
+            log.warn("Restauration du template impossible : {}", e.getMessage());
+            deleteQuietly(temp);
+            return false;
+        }
+    }
+
+    /**
+     * Enregistrer le template (fraîchement nettoyé) comme nouvelle référence
+     */
+    public synchronized void capture(File template) throws IOException {
+        File outputDir = new File(config.getOutputDir());
+        if (!outputDir.exists()) {
+            outputDir.mkdirs();
+        }
+
+        Path temp = Files.createTempFile(outputDir.toPath(), ".baseline", ".tmp");
+        Path manifestTemp = null;
+        try {
+            String layout = fingerprint(template);
+            String checksum = copyWithChecksum(template, temp.toFile());
+            replace(temp, new File(outputDir, BASELINE_FILE).toPath());
+
+            Properties manifest = new Properties();
+            manifest.setProperty("sha256", checksum);
+            manifest.setProperty("layout", layout);
+            manifest.setProperty("source", template.getAbsolutePath());
+            manifest.setProperty("captured", String.valueOf(System.currentTimeMillis()));
+            manifestTemp = Files.createTempFile(outputDir.toPath(), ".manifest", ".tmp");
+            try (OutputStream out = new FileOutputStream(manifestTemp.toFile())) {
+                manifest.store(out, "Référence vierge du template");
+            }
+            replace(manifestTemp, new File(outputDir, MANIFEST_FILE).toPath());
+        } finally {
+            deleteQuietly(temp);
+            deleteQuietly(manifestTemp);
+        }
+    }
+
+    /**
+     * Empreinte du template hors valeurs de la zone vidée par ExcelService.clearTemplateFile (A4:F)
+     */
+    private static String fingerprint(File template) throws IOException {
+        return TemplateFingerprint.of(template, ExcelService.DATA_START_ROW,
+                ExcelService.DATA_START_COL_A, ExcelService.DATA_END_COL_F);
+    }
+
+    private Properties readManifest() {
+        File file = new File(config.getOutputDir(), MANIFEST_FILE);
+        if (!file.exists()) {
+            return null;
+        }
+        Properties manifest = new Properties();
+        try (InputStream in = new FileInputStream(file)) {
+            manifest.load(in);
+            return manifest;
+        } catch (IOException e) {
+            log.warn("Manifeste de la référence illisible : {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Copie en flux, en calculant l'empreinte SHA-256 de ce qui est lu
+     */
+    private static String copyWithChecksum(File source, File target) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+
+        try (InputStream in = new DigestInputStream(new FileInputStream(source), digest);
+             OutputStream out = new FileOutputStream(target)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void replace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // fichier temporaire : sans conséquence
+        }
+    }
+}
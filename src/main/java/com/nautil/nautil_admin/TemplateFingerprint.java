@@ -0,0 +1,386 @@
+package com.nautil;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Empreinte d'un classeur .xlsx hors zone de données : tout le contenu du classeur
+ * (onglets, cellules, styles, mises en forme, objets...) sauf les valeurs des cellules
+ * de la zone vidée par le nettoyage (premier onglet, colonnes startCol..endCol à partir
+ * de la ligne dataStartRow). Deux classeurs de même empreinte donnent donc le même
+ * résultat une fois cette zone vidée.
+ *
+ * Calculée en lecture XML en flux, sans charger le classeur avec POI. Pour ne dépendre
+ * que du contenu et pas de la façon dont il a été enregistré :
+ * - les chaînes partagées sont remplacées par leur texte (leur ordre change à chaque
+ *   enregistrement), la partie sharedStrings elle-même est ignorée ;
+ * - les parties et éléments recalculés à l'enregistrement sont ignorés (propriétés du
+ *   document, chaîne de calcul, étendue de l'onglet, cellule active, position de fenêtre) ;
+ * - les attributs sont triés, les espaces entre éléments ignorés.
+ */
+final class TemplateFingerprint {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+    private static final String WORKBOOK_PART = "xl/workbook.xml";
+    private static final String WORKBOOK_RELS_PART = "xl/_rels/workbook.xml.rels";
+    private static final String SHARED_STRINGS_PART = "xl/sharedStrings.xml";
+
+    // Parties dérivées du reste du classeur ou purement descriptives
+    private static final Set<String> IGNORED_PARTS = Set.of(SHARED_STRINGS_PART, "xl/calcChain.xml");
+    private static final String IGNORED_PARTS_PREFIX = "docProps/";
+
+    // Éléments et attributs réécrits à chaque enregistrement
+    private static final Set<String> VOLATILE_ELEMENTS = Set.of("dimension", "selection", "workbookView");
+    private static final Set<String> VOLATILE_ATTRIBUTES = Set.of("spans", "dyDescent");
+
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final MessageDigest digest;
+    private final List<String> sharedStrings;
+
+    private TemplateFingerprint(List<String> sharedStrings) {
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        this.sharedStrings = sharedStrings;
+    }
+
+    /**
+     * Empreinte SHA-256 (hexadécimal) du classeur, hors valeurs des cellules
+     * startCol..endCol (0-based) du premier onglet à partir de la ligne dataStartRow (0-based)
+     */
+    static String of(File xlsx, int dataStartRow, int startCol, int endCol) throws IOException {
+        try (ZipFile zip = new ZipFile(xlsx)) {
+            String firstSheet = firstSheetPart(zip);
+            Set<String> worksheets = worksheetParts(zip);
+            TemplateFingerprint fingerprint = new TemplateFingerprint(readSharedStrings(zip));
+
+            List<String> names = new ArrayList<>();
+            for (ZipEntry entry : Collections.list(zip.entries())) {
+                if (!entry.isDirectory() && !isIgnored(entry.getName())) {
+                    names.add(entry.getName());
+                }
+            }
+            Collections.sort(names); // ordre des parties dans le zip propre à chaque outil
+
+            for (String name : names) {
+                fingerprint.update("part:" + name);
+                try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+                    if (worksheets.contains(name)) {
+                        boolean first = name.equals(firstSheet);
+                        fingerprint.sheet(in, first ? dataStartRow : Integer.MAX_VALUE, startCol, endCol);
+                    } else if (name.endsWith(".xml") || name.endsWith(".rels")) {
+                        fingerprint.xml(in);
+                    } else {
+                        fingerprint.binary(in);
+                    }
+                }
+            }
+            return HexFormat.of().formatHex(fingerprint.digest.digest());
+        } catch (XMLStreamException e) {
+            throw new IOException("Classeur illisible : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Partie XML quelconque : éléments, attributs triés et textes non vides
+     */
+    private void xml(InputStream in) throws XMLStreamException {
+        XMLStreamReader reader = XML.createXMLStreamReader(in);
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (VOLATILE_ELEMENTS.contains(reader.getLocalName())) {
+                    skipElement(reader);
+                } else {
+                    startElement(reader);
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                update(">");
+            }
+        }
+        reader.close();
+    }
+
+    /**
+     * Onglet : comme xml(), mais les cellules sont résolues (chaînes partagées) et celles de
+     * la zone de données ne comptent que par leur style ; les lignes ne comptent que par
+     * leurs attributs personnalisés (hauteur, style, masquage, plan)
+     */
+    private void sheet(InputStream in, int dataStartRow, int startCol, int endCol) throws XMLStreamException {
+        XMLStreamReader reader = XML.createXMLStreamReader(in);
+        int rowIdx = -1;
+        int colIdx = -1;
+
+        while (reader.hasNext()) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                boolean main = MAIN_NS.equals(reader.getNamespaceURI());
+                if (VOLATILE_ELEMENTS.contains(name)) {
+                    skipElement(reader);
+                } else if (main && "row".equals(name)) {
+                    String r = reader.getAttributeValue(null, "r");
+                    rowIdx = (r != null) ? Integer.parseInt(r) - 1 : rowIdx + 1;
+                    colIdx = -1;
+                    row(reader, rowIdx);
+                } else if (main && "c".equals(name)) {
+                    String r = reader.getAttributeValue(null, "r");
+                    colIdx = (r != null) ? SheetScan.columnOf(r) : colIdx + 1;
+                    boolean data = rowIdx >= dataStartRow && colIdx >= startCol && colIdx <= endCol;
+                    cell(reader, rowIdx, colIdx, data);
+                } else {
+                    startElement(reader);
+                }
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text(reader.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = reader.getLocalName();
+                if (!MAIN_NS.equals(reader.getNamespaceURI()) || !"row".equals(name)) {
+                    update(">");
+                }
+            }
+        }
+        reader.close();
+    }
+
+    private void row(XMLStreamReader reader, int rowIdx) {
+        StringBuilder sb = new StringBuilder();
+        for (String attribute : new String[] { "hidden", "outlineLevel", "collapsed", "thickTop", "thickBot" }) {
+            String value = reader.getAttributeValue(null, attribute);
+            if (value != null) {
+                sb.append(attribute).append('=').append(value).append(';');
+            }
+        }
+        if (isTrue(reader.getAttributeValue(null, "customHeight"))) {
+            sb.append("ht=").append(reader.getAttributeValue(null, "ht")).append(';');
+        }
+        if (isTrue(reader.getAttributeValue(null, "customFormat"))) {
+            sb.append("s=").append(reader.getAttributeValue(null, "s")).append(';');
+        }
+        if (sb.length() > 0) {
+            update("row:" + rowIdx + ":" + sb);
+        }
+    }
+
+    /**
+     * Cellule (curseur sur &lt;c&gt;, laissé sur &lt;/c&gt;)
+     */
+    private void cell(XMLStreamReader reader, int rowIdx, int colIdx, boolean data) throws XMLStreamException {
+        String style = reader.getAttributeValue(null, "s");
+        String type = reader.getAttributeValue(null, "t");
+        StringBuilder value = new StringBuilder();
+        StringBuilder formula = new StringBuilder();
+
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+                String name = reader.getLocalName();
+                if ("v".equals(name) || "t".equals(name)) {
+                    value.append(reader.getElementText());
+                    depth--;
+                } else if ("f".equals(name)) {
+                    formula.append(attributes(reader)).append(reader.getElementText());
+                    depth--;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+
+        boolean defaultStyle = style == null || "0".equals(style);
+        if (data) {
+            // Zone vidée par le nettoyage : seul le style de la cellule est conservé
+            if (!defaultStyle) {
+                update("c:" + rowIdx + ":" + colIdx + ":s=" + style);
+            }
+            return;
+        }
+
+        String text = value.toString();
+        if ("s".equals(type)) {
+            int index = Integer.parseInt(text.trim());
+            text = index < sharedStrings.size() ? sharedStrings.get(index) : "";
+            type = "inlineStr"; // même contenu, que la chaîne soit partagée ou non
+        }
+        update("c:" + rowIdx + ":" + colIdx + ":s=" + (defaultStyle ? "0" : style) + ";t=" + type
+                + ";f=" + formula + ";v=" + text);
+    }
+
+    private void startElement(XMLStreamReader reader) {
+        update("<" + reader.getNamespaceURI() + ":" + reader.getLocalName() + attributes(reader));
+    }
+
+    private void text(String text) {
+        String trimmed = text.trim();
+        if (!trimmed.isEmpty()) {
+            update("#" + trimmed);
+        }
+    }
+
+    private void binary(InputStream in) throws IOException {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+    }
+
+    private void update(String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+    }
+
+    /**
+     * Attributs triés, hors attributs volatils
+     */
+    private static String attributes(XMLStreamReader reader) {
+        List<String> attributes = new ArrayList<>();
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            String name = reader.getAttributeLocalName(i);
+            if (VOLATILE_ATTRIBUTES.contains(name)) continue;
+            String ns = reader.getAttributeNamespace(i);
+            attributes.add((ns != null && !ns.isEmpty() ? ns + ":" : "") + name + "=" + reader.getAttributeValue(i));
+        }
+        Collections.sort(attributes);
+        return attributes.isEmpty() ? "" : " " + String.join(" ", attributes);
+    }
+
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+
+    private static boolean isIgnored(String name) {
+        return IGNORED_PARTS.contains(name) || name.startsWith(IGNORED_PARTS_PREFIX);
+    }
+
+    private static boolean isTrue(String value) {
+        return "1".equals(value) || "true".equals(value);
+    }
+
+    /**
+     * Partie du premier onglet (ordre de workbook.xml)
+     */
+    private static String firstSheetPart(ZipFile zip) throws IOException, XMLStreamException {
+        String relId = null;
+        try (InputStream in = entry(zip, WORKBOOK_PART)) {
+            XMLStreamReader reader = XML.createXMLStreamReader(in);
+            while (reader.hasNext() && relId == null) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "sheet".equals(reader.getLocalName()) && MAIN_NS.equals(reader.getNamespaceURI())) {
+                    relId = reader.getAttributeValue(REL_NS, "id");
+                }
+            }
+            reader.close();
+        }
+        if (relId == null) {
+            throw new IOException("Aucun onglet dans " + zip.getName());
+        }
+
+        try (InputStream in = entry(zip, WORKBOOK_RELS_PART)) {
+            XMLStreamReader reader = XML.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "Relationship".equals(reader.getLocalName())
+                        && relId.equals(reader.getAttributeValue(null, "Id"))) {
+                    String target = partName(reader.getAttributeValue(null, "Target"));
+                    reader.close();
+                    return target;
+                }
+            }
+            reader.close();
+        }
+        throw new IOException("Relation introuvable : " + relId);
+    }
+
+    /**
+     * Parties de tous les onglets de calcul
+     */
+    private static Set<String> worksheetParts(ZipFile zip) throws IOException, XMLStreamException {
+        Set<String> parts = new HashSet<>();
+        try (InputStream in = entry(zip, WORKBOOK_RELS_PART)) {
+            XMLStreamReader reader = XML.createXMLStreamReader(in);
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT
+                        && "Relationship".equals(reader.getLocalName())
+                        && String.valueOf(reader.getAttributeValue(null, "Type")).endsWith("/worksheet")) {
+                    parts.add(partName(reader.getAttributeValue(null, "Target")));
+                }
+            }
+            reader.close();
+        }
+        return parts;
+    }
+
+    private static String partName(String target) {
+        return target.startsWith("/") ? target.substring(1) : "xl/" + target;
+    }
+
+    private static List<String> readSharedStrings(ZipFile zip) throws IOException, XMLStreamException {
+        List<String> strings = new ArrayList<>();
+        if (zip.getEntry(SHARED_STRINGS_PART) == null) {
+            return strings;
+        }
+        try (InputStream in = entry(zip, SHARED_STRINGS_PART)) {
+            XMLStreamReader reader = XML.createXMLStreamReader(in);
+            StringBuilder text = null;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT && "si".equals(reader.getLocalName())) {
+                    text = new StringBuilder();
+                } else if (event == XMLStreamConstants.START_ELEMENT && "t".equals(reader.getLocalName()) && text != null) {
+                    text.append(reader.getElementText());
+                } else if (event == XMLStreamConstants.START_ELEMENT && "rPh".equals(reader.getLocalName())) {
+                    skipElement(reader); // indications phonétiques : pas du texte affiché
+                } else if (event == XMLStreamConstants.END_ELEMENT && "si".equals(reader.getLocalName()) && text != null) {
+                    strings.add(text.toString());
+                    text = null;
+                }
+            }
+            reader.close();
+        }
+        return strings;
+    }
+
+    private static InputStream entry(ZipFile zip, String name) throws IOException {
+        ZipEntry entry = zip.getEntry(name);
+        if (entry == null) {
+            throw new IOException("Partie absente du classeur : " + name);
+        }
+        return zip.getInputStream(entry);
+    }
+}
@@ -0,0 +1,73 @@
+package com.nautil;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Seau à jetons : capacité maximale, remplissage continu à débit fixe
+ */
+final class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+    private double tokens;
+    private long lastRefill;
+
+    TokenBucket(int capacity, int refillPerMinute) {
+        this(capacity, refillPerMinute, System::nanoTime);
+    }
+
+    TokenBucket(int capacity, int refillPerMinute, LongSupplier clock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+        this.clock = clock;
+        this.tokens = capacity;
+        this.lastRefill = clock.getAsLong();
+    }
+
+    /**
+     * Consommer un jeton si disponible
+     */
+    synchronized boolean tryConsume() {
+        refill();
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Rendre un jeton consommé pour une requête finalement rejetée pour une autre raison
+     */
+    synchronized void refund() {
+        refill();
+        tokens = Math.min(capacity, tokens + 1.0);
+    }
+
+    /**
+     * Secondes avant qu'un jeton soit de nouveau disponible (au moins 1)
+     */
+    synchronized long secondsUntilNextToken() {
+        refill();
+        if (tokens >= 1.0 || tokensPerNano <= 0) {
+            return 1;
+        }
+        double nanos = (1.0 - tokens) / tokensPerNano;
+        return Math.max(1, (long) Math.ceil(nanos / 1_000_000_000.0));
+    }
+
+    /**
+     * Seau plein : aucune requête récente, peut être oublié
+     */
+    synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,192 @@
+package com.nautil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Workflow exprimé comme un graphe de dépendances entre étapes.
+ *
+ * Chaque étape déclare les fichiers qu'elle lit et ceux qu'elle écrit ; les dépendances
+ * en sont déduites dans l'ordre de déclaration : une étape attend le dernier écrivain de
+ * chaque fichier qu'elle lit ou écrit, et un écrivain attend aussi les lecteurs
+ * précédents du fichier qu'il écrit.
+ *
+ * Une étape démarre dès que toutes ses dépendances sont terminées ; les branches
+ * indépendantes s'exécutent en parallèle. Une étape ABORT en échec interrompt
+ * toutes les étapes qui en dépendent (directement ou non), une étape CONTINUE
+ * en échec n'empêche pas la suite. Les logs sont fusionnés dans l'ordre de
+ * déclaration des étapes, quel que soit l'ordre d'exécution réel.
+ */
+public class Workflow {
+
+    private static final Logger log = LoggerFactory.getLogger(Workflow.class);
+
+    public enum OnFailure { CONTINUE, ABORT }
+
+    private static final class Stage {
+        final String id;
+        final String title;
+        final OnFailure onFailure;
+        final Supplier<TaskResult> task;
+        final List<String> dependsOn;
+
+        Stage(String id, String title, OnFailure onFailure, Supplier<TaskResult> task, List<String> dependsOn) {
+            this.id = id;
+            this.title = title;
+            this.onFailure = onFailure;
+            this.task = task;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    private static final class Outcome {
+        final TaskResult result;  // null : étape non exécutée (dépendance interrompue)
+        final boolean blocking;   // les étapes dépendantes ne doivent pas s'exécuter
+
+        Outcome(TaskResult result, boolean blocking) {
+            this.result = result;
+            this.blocking = blocking;
+        }
+    }
+
+    private final Executor executor;
+    private final String successMessage;
+    private final Map<String, Stage> stages = new LinkedHashMap<>();
+    private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+    private final Map<String, String> lastWriters = new HashMap<>();
+    private final Map<String, Set<String>> readers = new HashMap<>();
+
+    public Workflow(Executor executor, String successMessage) {
+        this.executor = executor;
+        this.successMessage = successMessage;
+    }
+
+    /**
+     * Déclarer une étape avec les fichiers (clés logiques) qu'elle lit et qu'elle écrit
+     */
+    public Workflow stage(String id, String title, OnFailure onFailure, Supplier<TaskResult> task,
+                          List<String> inputs, List<String> outputs) {
+        if (stages.containsKey(id)) {
+            throw new IllegalArgumentException("Étape déjà déclarée : " + id);
+        }
+
+        Set<String> dependsOn = new LinkedHashSet<>();
+        for (String file : inputs) {
+            addIfPresent(dependsOn, lastWriters.get(file));
+        }
+        for (String file : outputs) {
+            addIfPresent(dependsOn, lastWriters.get(file));
+            dependsOn.addAll(readers.getOrDefault(file, Collections.emptySet()));
+        }
+        dependsOn.remove(id);
+
+        for (String file : outputs) {
+            lastWriters.put(file, id);
+            readers.remove(file);
+        }
+        for (String file : inputs) {
+            if (!outputs.contains(file)) {
+                readers.computeIfAbsent(file, key -> new LinkedHashSet<>()).add(id);
+            }
+        }
+
+        stages.put(id, new Stage(id, title, onFailure, task, new ArrayList<>(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Dépendances déduites d'une étape déclarée
+     */
+    public List<String> dependenciesOf(String id) {
+        Stage stage = stages.get(id);
+        return stage != null ? Collections.unmodifiableList(stage.dependsOn) : Collections.emptyList();
+    }
+
+    /**
+     * Exécuter le graphe et fusionner les résultats des étapes
+     */
+    public TaskResult run() {
+        Map<String, CompletableFuture<Outcome>> futures = new LinkedHashMap<>();
+        for (Stage stage : stages.values()) {
+            List<CompletableFuture<Outcome>> dependencies = new ArrayList<>();
+            for (String dependency : stage.dependsOn) {
+                dependencies.add(futures.get(dependency));
+            }
+            CompletableFuture<Outcome> future = CompletableFuture
+                    .allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignored -> execute(stage, dependencies), executor);
+            futures.put(stage.id, future);
+        }
+
+        TaskResult finalResult = new TaskResult();
+        finalResult.setSuccess(true);
+        finalResult.setMessage(successMessage);
+
+        for (Map.Entry<String, CompletableFuture<Outcome>> entry : futures.entrySet()) {
+            Stage stage = stages.get(entry.getKey());
+            Outcome outcome = entry.getValue().join();
+            outcomes.put(stage.id, outcome);
+
+            TaskResult result = outcome.result;
+            if (result == null) continue;
+
+            finalResult.getLogs().add(stage.title);
+            finalResult.getLogs().addAll(result.getLogs());
+            if (result.isSuccess()) continue;
+
+            if (stage.onFailure == OnFailure.ABORT) {
+                finalResult.addLog("❌ " + result.getMessage());
+                if (finalResult.isSuccess()) {
+                    finalResult.setSuccess(false);
+                    finalResult.setMessage("Erreur " + stage.id + " : " + result.getMessage());
+                }
+            } else {
+                finalResult.addLog("⚠️ " + result.getMessage() + " (traitement continué)");
+            }
+        }
+        return finalResult;
+    }
+
+    /**
+     * Résultat d'une étape après run(), null si elle n'a pas été exécutée
+     */
+    public TaskResult result(String id) {
+        Outcome outcome = outcomes.get(id);
+        return outcome != null ? outcome.result : null;
+    }
+
+    private static void addIfPresent(Set<String> set, String value) {
+        if (value != null) {
+            set.add(value);
+        }
+    }
+
+    private Outcome execute(Stage stage, List<CompletableFuture<Outcome>> dependencies) {
+        for (CompletableFuture<Outcome> dependency : dependencies) {
+            if (dependency.join().blocking) {
+                return new Outcome(null, true);
+            }
+        }
+
+        TaskResult result;
+        try {
+            result = stage.task.get();
+        } catch (Exception e) {
+            log.error("Erreur " + stage.id, e);
+            result = new TaskResult(false, "Erreur : " + e.getMessage());
+        }
+        return new Outcome(result, !result.isSuccess() && stage.onFailure == OnFailure.ABORT);
+    }
+}
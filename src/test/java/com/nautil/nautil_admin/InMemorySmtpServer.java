@@ -0,0 +1,102 @@
+package com.nautil.nautil_admin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Serveur SMTP minimal sur la boucle locale : accepte tous les messages
+ * et se contente de les compter (nombre et taille)
+ */
+class InMemorySmtpServer implements AutoCloseable {
+
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+		Thread thread = new Thread(runnable, "smtp-in-memory");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private final AtomicInteger messages = new AtomicInteger();
+	private final AtomicLong bytes = new AtomicLong();
+
+	InMemorySmtpServer() throws IOException {
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		executor.execute(this::acceptLoop);
+	}
+
+	int getPort() { return serverSocket.getLocalPort(); }
+	int getMessageCount() { return messages.get(); }
+	long getReceivedBytes() { return bytes.get(); }
+
+	private void acceptLoop() {
+		while (!serverSocket.isClosed()) {
+			try {
+				Socket socket = serverSocket.accept();
+				executor.execute(() -> handle(socket));
+			} catch (SocketException e) {
+				return; // serveur fermé
+			} catch (IOException e) {
+				// connexion ratée : on continue d'accepter
+			}
+		}
+	}
+
+	private void handle(Socket socket) {
+		try (Socket s = socket;
+			 BufferedReader in = new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.ISO_8859_1));
+			 OutputStream out = s.getOutputStream()) {
+
+			reply(out, "220 localhost SMTP en mémoire");
+			String line;
+			while ((line = in.readLine()) != null) {
+				String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+				switch (command) {
+					case "EHLO":
+					case "HELO":
+						reply(out, "250 localhost");
+						break;
+					case "DATA":
+						reply(out, "354 Fin des données par <CRLF>.<CRLF>");
+						long size = 0;
+						while ((line = in.readLine()) != null && !line.equals(".")) {
+							size += line.length() + 2;
+						}
+						messages.incrementAndGet();
+						bytes.addAndGet(size);
+						reply(out, "250 Message accepté");
+						break;
+					case "QUIT":
+						reply(out, "221 Au revoir");
+						return;
+					default:
+						// MAIL, RCPT, RSET, NOOP...
+						reply(out, "250 OK");
+				}
+			}
+		} catch (IOException e) {
+			// client déconnecté
+		}
+	}
+
+	private static void reply(OutputStream out, String line) throws IOException {
+		out.write((line + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		serverSocket.close();
+		executor.shutdownNow();
+	}
+}
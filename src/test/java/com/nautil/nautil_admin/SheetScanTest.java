@@ -0,0 +1,125 @@
+package com.nautil;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SheetScanTest {
+
+	@Test
+	void columnMaskCoversInclusiveRange() {
+		assertEquals(0b1L, SheetScan.columnMask(0, 0));
+		assertEquals(0b111111L, SheetScan.columnMask(0, 5));
+		assertEquals(0b1111110L, SheetScan.columnMask(1, 6));
+		assertEquals(Long.MAX_VALUE, SheetScan.columnMask(0, SheetScan.MAX_COLUMN));
+		assertEquals(1L << SheetScan.MAX_COLUMN, SheetScan.columnMask(SheetScan.MAX_COLUMN, SheetScan.MAX_COLUMN));
+	}
+
+	@Test
+	void columnMaskRejectsUnsupportedRanges() {
+		assertThrows(IllegalArgumentException.class, () -> SheetScan.columnMask(-1, 5));
+		assertThrows(IllegalArgumentException.class, () -> SheetScan.columnMask(0, 63));
+		assertThrows(IllegalArgumentException.class, () -> SheetScan.columnMask(6, 1));
+	}
+
+	@Test
+	void columnOfParsesCellReferences() {
+		assertEquals(0, SheetScan.columnOf("A1"));
+		assertEquals(6, SheetScan.columnOf("G4"));
+		assertEquals(26, SheetScan.columnOf("AA10"));
+		assertEquals(62, SheetScan.columnOf("BK3"));
+	}
+
+	@Test
+	void firstPositionSkipsMissingRows() throws IOException {
+		SheetScan scan = parse(
+				"<row r=\"1\"><c r=\"B1\"><v>1</v></c></row>"
+				+ "<row r=\"3\"><c r=\"B3\"><v>1</v></c></row>"
+				+ "<row r=\"6\"><c r=\"B6\"><v>1</v></c></row>"
+				+ "<row r=\"10\"><c r=\"B10\"><v>1</v></c></row>");
+
+		assertEquals(4, scan.size());
+		assertEquals(0, scan.firstPosition(0));
+		assertEquals(1, scan.firstPosition(1));
+		assertEquals(1, scan.firstPosition(2));
+		assertEquals(2, scan.firstPosition(3));
+		assertEquals(3, scan.firstPosition(9));
+		assertEquals(4, scan.firstPosition(10));
+	}
+
+	@Test
+	void blankCellsAreNotInMask() throws IOException {
+		SheetScan scan = parse(
+				"<row r=\"4\">"
+				+ "<c r=\"A4\" t=\"s\"><v>0</v></c>"
+				+ "<c r=\"C4\" s=\"1\"/>"
+				+ "<c r=\"E4\"><f>1+1</f><v>2</v></c>"
+				+ "<c r=\"G4\" t=\"inlineStr\"><is><t>x</t></is></c>"
+				+ "</row>"
+				+ "<row r=\"5\" s=\"2\" customFormat=\"1\"/>");
+
+		assertEquals(2, scan.size());
+		assertEquals(3, scan.rowIndexAt(0));
+		assertEquals((1L << 0) | (1L << 4) | (1L << 6), scan.maskAt(0));
+		assertEquals(0L, scan.maskAt(1));
+	}
+
+	@Test
+	void cellsBeyondMaxColumnOnlySetOverflowBit() throws IOException {
+		SheetScan scan = parse("<row r=\"1\"><c r=\"BL1\"><v>1</v></c><c r=\"ZZ1\"><v>1</v></c></row>");
+
+		assertEquals(1L << 63, scan.maskAt(0));
+		assertEquals(0L, scan.maskAt(0) & SheetScan.columnMask(0, SheetScan.MAX_COLUMN));
+		assertEquals(0, scan.lastDataRow());
+	}
+
+	@Test
+	void lastDataRowIgnoresTrailingBlankRows() throws IOException {
+		assertEquals(0, parse("").lastDataRow());
+
+		SheetScan scan = parse(
+				"<row r=\"5\"><c r=\"A5\"><v>45000</v></c></row>"
+				+ "<row r=\"8\"><c r=\"D8\" s=\"3\"/></row>");
+		assertEquals(4, scan.lastDataRow());
+	}
+
+	@Test
+	void scanReadsSheetPartOfLoadedWorkbook() throws IOException {
+		ByteArrayOutputStream bos = new ByteArrayOutputStream();
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			Sheet sheet = workbook.createSheet("scan");
+			Row row = sheet.createRow(3);
+			row.createCell(0).setCellValue("hors plage");
+			row.createCell(2).setCellValue("B");
+			row.createCell(4).setBlank();
+			row.createCell(6).setCellValue(42);
+			sheet.createRow(7).createCell(8).setCellValue("hors plage");
+			workbook.write(bos);
+		}
+
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()))) {
+			SheetScan scan = SheetScan.of(workbook.getSheetAt(0));
+
+			assertEquals(2, scan.size());
+			assertEquals((1L << 0) | (1L << 2) | (1L << 6), scan.maskAt(0));
+			assertEquals(1L << 8, scan.maskAt(1));
+			assertEquals(7, scan.lastDataRow());
+		}
+	}
+
+	private static SheetScan parse(String rows) throws IOException {
+		String xml = "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\">"
+				+ "<sheetData>" + rows + "</sheetData></worksheet>";
+		return SheetScan.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)));
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.nautil.nautil_admin;
+
+import com.nautil.SampleWorkbooks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Démarrage à froid avec et sans archive AppCDS : chaque mesure lance une JVM séparée
+ * sur le classpath packagé, relève le temps de démarrage journalisé ("Application prête en … ms")
+ * puis la latence du premier POST /api/run-all.
+ *
+ * Lancement (après mvn -Pcds package) :
+ *   mvn test -Dtest=StartupBenchmarkTest -Dnautil.benchmark=true
+ *   -Dnautil.benchmark.classpath=...   classpath packagé (défaut : jar de target + libs/*)
+ *   -Dnautil.benchmark.archive=...     archive AppCDS (défaut : target/nautil-admin.jsa)
+ *   -Dnautil.benchmark.runs=3          démarrages par mode (médiane retenue)
+ */
+@EnabledIfSystemProperty(named = "nautil.benchmark", matches = "true")
+class StartupBenchmarkTest {
+
+	private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+
+	private static final Pattern READY = Pattern.compile("Application prête en (\\d+) ms");
+
+	private static final int RUNS = Integer.getInteger("nautil.benchmark.runs", 3);
+	private static final int ROWS = Integer.getInteger("nautil.benchmark.rows", 500);
+	private static final String CLASSPATH = System.getProperty("nautil.benchmark.classpath",
+			"target/nautil-admin-0.0.1-SNAPSHOT.jar" + File.pathSeparator + "libs/*");
+	private static final String ARCHIVE = System.getProperty("nautil.benchmark.archive", "target/nautil-admin.jsa");
+
+	private static final String SHEET_GLOBAL = "Vue Globale - Re7 NAUTIL";
+	private static final String[] TX_SHEETS = { "TX1", "TX2", "TX3" };
+
+	@TempDir
+	Path tempDir;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+
+	@Test
+	void coldStartWithAndWithoutAppCds() throws Exception {
+		assumeTrue(new File(ARCHIVE).exists(), "Archive AppCDS absente : lancer d'abord mvn -Pcds package");
+
+		List<long[]> plain = new ArrayList<>();
+		List<long[]> cds = new ArrayList<>();
+		for (int run = 1; run <= RUNS; run++) {
+			plain.add(measure("sans-cds-" + run, false));
+			cds.add(measure("cds-" + run, true));
+		}
+
+		log.info("Démarrage à froid ({} démarrage(s) par mode, médianes) :", RUNS);
+		log.info(String.format("%-12s %14s %18s", "Mode", "Prête (ms)", "1er run-all (ms)"));
+		log.info(String.format("%-12s %14d %18d", "Sans CDS", median(plain, 0), median(plain, 1)));
+		log.info(String.format("%-12s %14d %18d", "AppCDS", median(cds, 0), median(cds, 1)));
+	}
+
+	/**
+	 * Lancer une JVM, attendre "Application prête" puis mesurer le premier run-all ;
+	 * retourne { temps de démarrage, latence du premier run-all } en ms
+	 */
+	private long[] measure(String name, boolean withArchive) throws Exception {
+		File dir = tempDir.resolve(name).toFile();
+		dir.mkdirs();
+		File verification = SampleWorkbooks.createVerificationFile(dir, SHEET_GLOBAL, TX_SHEETS, ROWS);
+		File template = SampleWorkbooks.createTemplateFile(dir, ROWS);
+		int port = freePort();
+
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		if (withArchive) {
+			command.add("-XX:SharedArchiveFile=" + ARCHIVE);
+		}
+		command.add("-Dserver.port=" + port);
+		command.add("-Dnautil.excel.verification-file=" + verification.getAbsolutePath());
+		command.add("-Dnautil.excel.template-file=" + template.getAbsolutePath());
+		command.add("-Dnautil.excel.output-dir=" + new File(dir, "output").getAbsolutePath());
+		command.add("-Dnautil.excel.sheet-global=" + SHEET_GLOBAL);
+		command.add("-Dnautil.excel.sheet-tx1=" + TX_SHEETS[0]);
+		command.add("-Dnautil.excel.sheet-tx2=" + TX_SHEETS[1]);
+		command.add("-Dnautil.excel.sheet-tx3=" + TX_SHEETS[2]);
+		command.add("-Dnautil.email.from=nautil-admin@localhost");
+		command.add("-Dnautil.email.default-to=operateur@localhost");
+		command.add("-cp");
+		command.add(CLASSPATH);
+		command.add(NautilAdminApplication.class.getName());
+
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+		try {
+			CompletableFuture<Long> ready = new CompletableFuture<>();
+			Thread reader = new Thread(() -> readOutput(process, ready), "benchmark-" + name);
+			reader.setDaemon(true);
+			reader.start();
+
+			long readyMillis = ready.get(2, TimeUnit.MINUTES);
+
+			HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/run-all"))
+					.POST(HttpRequest.BodyPublishers.noBody())
+					.build();
+			long start = System.nanoTime();
+			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			long runAllMillis = (System.nanoTime() - start) / 1_000_000;
+
+			assertEquals(200, response.statusCode(), name + " : " + response.body());
+			assertTrue(response.body().contains("\"success\":true"), name + " : " + response.body());
+			log.info("{} : prête en {} ms, premier run-all en {} ms", name, readyMillis, runAllMillis);
+			return new long[] { readyMillis, runAllMillis };
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly();
+			}
+		}
+	}
+
+	private static void readOutput(Process process, CompletableFuture<Long> ready) {
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				Matcher matcher = READY.matcher(line);
+				if (!ready.isDone() && matcher.find()) {
+					ready.complete(Long.parseLong(matcher.group(1)));
+				}
+			}
+			ready.completeExceptionally(new IllegalStateException("Application arrêtée avant d'être prête"));
+		} catch (IOException e) {
+			ready.completeExceptionally(e);
+		}
+	}
+
+	private static int freePort() throws IOException {
+		try (ServerSocket socket = new ServerSocket(0)) {
+			return socket.getLocalPort();
+		}
+	}
+
+	private static long median(List<long[]> samples, int index) {
+		List<Long> values = new ArrayList<>();
+		for (long[] sample : samples) {
+			values.add(sample[index]);
+		}
+		Collections.sort(values);
+		return values.get(values.size() / 2);
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.nautil;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TemplateFingerprintTest {
+
+	@TempDir
+	File dir;
+
+	@Test
+	void dataValuesDoNotChangeFingerprint() throws IOException {
+		File template = SampleWorkbooks.createTemplateFile(dir, 0);
+		String clean = fingerprint(template);
+
+		SampleWorkbooks.createTemplateFile(dir, 200);
+
+		assertEquals(clean, fingerprint(template));
+	}
+
+	@Test
+	void blankedDataZoneMatchesCleanTemplate() throws IOException {
+		File template = SampleWorkbooks.createTemplateFile(dir, 50);
+		String filled = fingerprint(template);
+
+		edit(template, sheet -> {
+			for (int rowIdx = 3; rowIdx <= sheet.getLastRowNum(); rowIdx++) {
+				for (int colIdx = 0; colIdx <= 5; colIdx++) {
+					sheet.getRow(rowIdx).getCell(colIdx).setBlank();
+				}
+			}
+		});
+
+		assertEquals(filled, fingerprint(template));
+	}
+
+	@Test
+	void headerEditChangesFingerprint() throws IOException {
+		assertChanged(sheet -> sheet.getRow(1).getCell(2).setCellValue("Nouvel en-tête"));
+	}
+
+	@Test
+	void cellBeyondDataColumnsChangesFingerprint() throws IOException {
+		assertChanged(sheet -> sheet.getRow(10).createCell(6).setCellValue("commentaire G11"));
+	}
+
+	@Test
+	void layoutEditChangesFingerprint() throws IOException {
+		assertChanged(sheet -> sheet.setColumnWidth(3, 40 * 256));
+	}
+
+	@Test
+	void otherSheetContentChangesFingerprint() throws IOException {
+		File template = SampleWorkbooks.createTemplateFile(dir, 10);
+		edit(template, sheet -> sheet.getWorkbook().createSheet("Annexe").createRow(5).createCell(0).setCellValue("v1"));
+		String before = fingerprint(template);
+
+		edit(template, sheet -> sheet.getWorkbook().getSheet("Annexe").getRow(5).getCell(0).setCellValue("v2"));
+
+		assertNotEquals(before, fingerprint(template));
+	}
+
+	private void assertChanged(Consumer<Sheet> change) throws IOException {
+		File template = SampleWorkbooks.createTemplateFile(dir, 20);
+		String before = fingerprint(template);
+
+		edit(template, change);
+
+		assertNotEquals(before, fingerprint(template));
+	}
+
+	private static String fingerprint(File template) throws IOException {
+		return TemplateFingerprint.of(template, 3, 0, 5);
+	}
+
+	private static void edit(File file, Consumer<Sheet> change) throws IOException {
+		XSSFWorkbook workbook;
+		try (InputStream in = new FileInputStream(file)) {
+			workbook = new XSSFWorkbook(in);
+		}
+		try (workbook; OutputStream out = new FileOutputStream(file)) {
+			change.accept(workbook.getSheetAt(0));
+			workbook.write(out);
+		}
+	}
+
+}
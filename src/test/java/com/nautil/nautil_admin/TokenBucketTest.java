@@ -0,0 +1,95 @@
+package com.nautil;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+	private long now = 0L;
+
+	private TokenBucket bucket(int capacity, int refillPerMinute) {
+		return new TokenBucket(capacity, refillPerMinute, () -> now);
+	}
+
+	private void advanceSeconds(double seconds) {
+		now += (long) (seconds * TimeUnit.SECONDS.toNanos(1));
+	}
+
+	@Test
+	void burstUpToCapacityThenRejects() {
+		TokenBucket bucket = bucket(3, 3);
+
+		assertTrue(bucket.tryConsume());
+		assertTrue(bucket.tryConsume());
+		assertTrue(bucket.tryConsume());
+		assertFalse(bucket.tryConsume());
+	}
+
+	@Test
+	void refillsAtConfiguredRate() {
+		TokenBucket bucket = bucket(3, 3); // un jeton toutes les 20 s
+		for (int i = 0; i < 3; i++) {
+			bucket.tryConsume();
+		}
+
+		advanceSeconds(19);
+		assertFalse(bucket.tryConsume());
+		advanceSeconds(1);
+		assertTrue(bucket.tryConsume());
+		assertFalse(bucket.tryConsume());
+	}
+
+	@Test
+	void refillNeverExceedsCapacity() {
+		TokenBucket bucket = bucket(2, 60);
+		bucket.tryConsume();
+
+		advanceSeconds(3600);
+		assertTrue(bucket.isFull());
+		assertTrue(bucket.tryConsume());
+		assertTrue(bucket.tryConsume());
+		assertFalse(bucket.tryConsume());
+	}
+
+	@Test
+	void retryAfterIsTimeUntilNextTokenRoundedUp() {
+		TokenBucket bucket = bucket(1, 3); // un jeton toutes les 20 s
+		assertEquals(1, bucket.secondsUntilNextToken());
+
+		bucket.tryConsume();
+		assertEquals(20, bucket.secondsUntilNextToken());
+
+		advanceSeconds(12.5);
+		assertEquals(8, bucket.secondsUntilNextToken());
+
+		advanceSeconds(7.9);
+		assertEquals(1, bucket.secondsUntilNextToken());
+	}
+
+	@Test
+	void retryAfterWithoutRefillIsAtLeastOneSecond() {
+		TokenBucket bucket = bucket(1, 0);
+		bucket.tryConsume();
+
+		assertEquals(1, bucket.secondsUntilNextToken());
+	}
+
+	@Test
+	void refundGivesBackTokenWithinCapacity() {
+		TokenBucket bucket = bucket(1, 1);
+		assertTrue(bucket.tryConsume());
+		assertFalse(bucket.tryConsume());
+
+		bucket.refund();
+		assertTrue(bucket.isFull());
+		bucket.refund();
+		assertTrue(bucket.tryConsume());
+		assertFalse(bucket.tryConsume());
+	}
+
+}
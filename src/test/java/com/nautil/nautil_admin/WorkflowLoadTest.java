@@ -0,0 +1,329 @@
+package com.nautil.nautil_admin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nautil.NautilConfig;
+import com.nautil.SampleWorkbooks;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test de charge : opérateurs simultanés sur les endpoints du workflow et exécutions
+ * planifiées de /api/run-complete, sur des classeurs générés et un SMTP en mémoire.
+ *
+ * Tous les clients partagent le même fichier de vérification et le même template :
+ * au-delà d'un traitement simultané, des sauvegardes concurrentes peuvent corrompre
+ * le classeur et les latences ne mesurent plus que des échecs rapides. Garder
+ * nautil.ratelimit.max-concurrent=1 (défaut) pour des chiffres exploitables.
+ * Le test échoue si une requête de workflow (run-all, run-complete) répond success:false.
+ *
+ * Lancement : mvn test -Dtest=WorkflowLoadTest -Dnautil.loadtest=true
+ *   -Dnautil.loadtest.operators=8      opérateurs simultanés
+ *   -Dnautil.loadtest.iterations=20    requêtes par opérateur
+ *   -Dnautil.loadtest.rows=2000        lignes de données par onglet
+ *   -Dnautil.loadtest.schedule-ms=2000 période des exécutions planifiées (0 = aucune)
+ *   -Dnautil.ratelimit.max-concurrent=1
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "nautil.loadtest", matches = "true")
+class WorkflowLoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(WorkflowLoadTest.class);
+
+	private static final int OPERATORS = Integer.getInteger("nautil.loadtest.operators", 8);
+	private static final int ITERATIONS = Integer.getInteger("nautil.loadtest.iterations", 20);
+	private static final int ROWS = Integer.getInteger("nautil.loadtest.rows", 2000);
+	private static final long SCHEDULE_MS = Long.getLong("nautil.loadtest.schedule-ms", 2000);
+
+	private static final String[] OPERATOR_ENDPOINTS = {
+			"/api/run-all",
+			"/api/run-complete",
+			"/api/step/rename",
+			"/api/step/vue-globale",
+			"/api/step/clear-tx",
+			"/api/step/clear-after-tx3",
+			"/api/step/clear-template",
+			"/api/step/send-email"
+	};
+
+	private static final String SCHEDULED = "[planifié] /api/run-complete";
+
+	private static final InMemorySmtpServer SMTP = startSmtp();
+
+	@DynamicPropertySource
+	static void loadTestProperties(DynamicPropertyRegistry registry) {
+		registry.add("spring.mail.host", () -> "localhost");
+		registry.add("spring.mail.port", SMTP::getPort);
+		// Les seaux ne doivent pas masquer la charge ; seul le plafond de concurrence s'applique
+		registry.add("nautil.ratelimit.endpoint-capacity", () -> 1_000_000);
+		registry.add("nautil.ratelimit.endpoint-refill-per-minute", () -> 1_000_000);
+		registry.add("nautil.ratelimit.client-capacity", () -> 1_000_000);
+		registry.add("nautil.ratelimit.client-refill-per-minute", () -> 1_000_000);
+		registry.add("nautil.ratelimit.max-concurrent", () -> System.getProperty("nautil.ratelimit.max-concurrent", "1"));
+	}
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private NautilConfig config;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@TempDir
+	Path tempDir;
+
+	private final HttpClient httpClient = HttpClient.newHttpClient();
+	private final Map<String, ConcurrentLinkedQueue<Sample>> samples = new ConcurrentHashMap<>();
+	private final ConcurrentLinkedQueue<Long> gcPauses = new ConcurrentLinkedQueue<>();
+
+	private static final class Sample {
+		final long nanos;
+		final int status;      // -1 : erreur de transport
+		final boolean success; // champ "success" de la réponse JSON
+		final String message;
+
+		Sample(long nanos, int status, boolean success, String message) {
+			this.nanos = nanos;
+			this.status = status;
+			this.success = success;
+			this.message = message;
+		}
+	}
+
+	@AfterAll
+	static void stopSmtp() throws IOException {
+		SMTP.close();
+	}
+
+	@Test
+	void concurrentOperatorsAndScheduledRuns() throws Exception {
+		File dir = tempDir.toFile();
+		config.setVerificationFilePath(SampleWorkbooks.createVerificationFile(dir, config, ROWS).getAbsolutePath());
+		config.setTemplateFilePath(SampleWorkbooks.createTemplateFile(dir, ROWS).getAbsolutePath());
+		config.setOutputDir(new File(dir, "output").getAbsolutePath());
+
+		List<NotificationListener> gcListeners = registerGcListeners();
+		long gcCountBefore = gcCount();
+		long gcTimeBefore = gcTime();
+		System.gc();
+		MemoryUsage heapBefore = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+
+		ExecutorService operators = Executors.newFixedThreadPool(OPERATORS);
+		ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+		CountDownLatch done = new CountDownLatch(OPERATORS);
+
+		long start = System.nanoTime();
+		if (SCHEDULE_MS > 0) {
+			scheduler.scheduleAtFixedRate(() -> post("/api/run-complete", SCHEDULED),
+					SCHEDULE_MS, SCHEDULE_MS, TimeUnit.MILLISECONDS);
+		}
+		for (int i = 0; i < OPERATORS; i++) {
+			operators.execute(() -> {
+				try {
+					for (int n = 0; n < ITERATIONS; n++) {
+						String endpoint = OPERATOR_ENDPOINTS[ThreadLocalRandom.current().nextInt(OPERATOR_ENDPOINTS.length)];
+						post(endpoint, endpoint);
+					}
+				} finally {
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		scheduler.shutdownNow();
+		scheduler.awaitTermination(1, TimeUnit.MINUTES);
+		operators.shutdown();
+		long elapsedNanos = System.nanoTime() - start;
+
+		MemoryUsage heapAfter = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+		unregisterGcListeners(gcListeners);
+
+		report(elapsedNanos, heapBefore, heapAfter, gcCount() - gcCountBefore, gcTime() - gcTimeBefore);
+
+		// 200 : traité, 429 : rejet du limiteur ; tout le reste est anormal
+		samples.forEach((label, values) -> values.forEach(sample ->
+				assertTrue(sample.status == 200 || sample.status == 429, label + " : HTTP " + sample.status)));
+
+		// Une requête de workflow traitée doit réussir : sinon les latences mesurent des échecs
+		samples.forEach((label, values) -> {
+			if (!isWorkflowRequest(label)) return;
+			values.forEach(sample -> assertTrue(sample.status != 200 || sample.success,
+					label + " : success=false - " + sample.message));
+		});
+	}
+
+	private static boolean isWorkflowRequest(String label) {
+		return label.equals("/api/run-all") || label.equals("/api/run-complete") || label.equals(SCHEDULED);
+	}
+
+	private void post(String endpoint, String label) {
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + endpoint))
+				.POST(HttpRequest.BodyPublishers.noBody())
+				.build();
+		long start = System.nanoTime();
+		int status = -1;
+		boolean success = false;
+		String message;
+		try {
+			HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+			status = response.statusCode();
+			JsonNode body = objectMapper.readTree(response.body());
+			success = body.path("success").asBoolean(false);
+			message = body.path("message").asText();
+		} catch (Exception e) {
+			message = e.toString();
+		}
+		long elapsed = System.nanoTime() - start;
+		samples.computeIfAbsent(label, key -> new ConcurrentLinkedQueue<>())
+				.add(new Sample(elapsed, status, success, message));
+	}
+
+	private void report(long elapsedNanos, MemoryUsage heapBefore, MemoryUsage heapAfter, long gcCount, long gcTimeMillis) {
+		double seconds = elapsedNanos / 1e9;
+		long total = 0;
+		long totalOk = 0;
+		long totalFailed = 0;
+		long totalRejected = 0;
+
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("%n===== Test de charge : %d opérateurs x %d requêtes, %d lignes, planifié toutes les %d ms, max-concurrent=%s =====%n",
+				OPERATORS, ITERATIONS, ROWS, SCHEDULE_MS, System.getProperty("nautil.ratelimit.max-concurrent", "1")));
+		sb.append(String.format("Client et serveur dans la même JVM : tas et GC incluent le générateur de charge%n"));
+		sb.append(String.format("%-30s %6s %6s %6s %6s %8s %8s %8s %8s %8s%n",
+				"Endpoint", "N", "OK", "Échec", "429", "OK/s", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+		for (Map.Entry<String, ConcurrentLinkedQueue<Sample>> entry : new TreeMap<>(samples).entrySet()) {
+			List<Sample> values = new ArrayList<>(entry.getValue());
+			// Percentiles calculés sur les seules requêtes réussies
+			List<Long> sorted = new ArrayList<>();
+			long failed = 0;
+			long rejected = 0;
+			for (Sample sample : values) {
+				if (sample.status == 429) {
+					rejected++;
+				} else if (sample.status == 200 && sample.success) {
+					sorted.add(sample.nanos);
+				} else {
+					failed++;
+				}
+			}
+			Collections.sort(sorted);
+			sb.append(String.format("%-30s %6d %6d %6d %6d %8.2f %8d %8d %8d %8d%n", entry.getKey(), values.size(),
+					sorted.size(), failed, rejected, sorted.size() / seconds,
+					percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), percentile(sorted, 100)));
+			total += values.size();
+			totalOk += sorted.size();
+			totalFailed += failed;
+			totalRejected += rejected;
+		}
+		// Débit utile : les rejets 429 (immédiats) et les échecs mesureraient le limiteur, pas le traitement
+		sb.append(String.format("Débit utile : %d requêtes réussies en %.1f s = %.2f req/s%n",
+				totalOk, seconds, totalOk / seconds));
+		sb.append(String.format("Rejets 429 : %d / %d (%.1f %%), échecs : %d / %d (%.1f %%)%n",
+				totalRejected, total, percent(totalRejected, total), totalFailed, total, percent(totalFailed, total)));
+		sb.append(String.format("Tas : %d Mo avant, %d Mo après, %d Mo max%n",
+				heapBefore.getUsed() >> 20, heapAfter.getUsed() >> 20, heapAfter.getMax() >> 20));
+		long maxPause = gcPauses.stream().mapToLong(Long::longValue).max().orElse(0);
+		sb.append(String.format("GC : %d collections, %d ms cumulés, pause max %d ms%n", gcCount, gcTimeMillis, maxPause));
+		sb.append(String.format("SMTP : %d message(s), %d Ko reçus%n", SMTP.getMessageCount(), SMTP.getReceivedBytes() >> 10));
+		log.info(sb.toString());
+	}
+
+	private static double percent(long count, long total) {
+		return total == 0 ? 0 : 100.0 * count / total;
+	}
+
+	private static long percentile(List<Long> sorted, int percentile) {
+		if (sorted.isEmpty()) return 0;
+		int index = (int) Math.ceil(percentile / 100.0 * sorted.size()) - 1;
+		return sorted.get(Math.max(0, index)) / 1_000_000;
+	}
+
+	private List<NotificationListener> registerGcListeners() {
+		List<NotificationListener> listeners = new ArrayList<>();
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (!(gc instanceof NotificationEmitter)) continue;
+			NotificationListener listener = (Notification notification, Object handback) -> {
+				if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+					GarbageCollectionNotificationInfo info =
+							GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+					gcPauses.add(info.getGcInfo().getDuration());
+				}
+			};
+			((NotificationEmitter) gc).addNotificationListener(listener, null, null);
+			listeners.add(listener);
+		}
+		return listeners;
+	}
+
+	private void unregisterGcListeners(List<NotificationListener> listeners) {
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			if (!(gc instanceof NotificationEmitter)) continue;
+			for (NotificationListener listener : listeners) {
+				try {
+					((NotificationEmitter) gc).removeNotificationListener(listener);
+				} catch (Exception e) {
+					// écouteur enregistré sur un autre collecteur
+				}
+			}
+		}
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+	}
+
+	private static long gcTime() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+	}
+
+	private static InMemorySmtpServer startSmtp() {
+		try {
+			return new InMemorySmtpServer();
+		} catch (IOException e) {
+			throw new IllegalStateException("Démarrage du serveur SMTP en mémoire impossible", e);
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.nautil;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkflowTest {
+
+	private static final Executor SAME_THREAD = Runnable::run;
+
+	private static final List<String> VERIFICATION = List.of("verification");
+	private static final List<String> TEMPLATE = List.of("template");
+
+	private final List<String> executed = new ArrayList<>();
+
+	@Test
+	void excelWorkflowDependenciesAreDerivedFromFiles() {
+		ExcelService excelService = new ExcelService();
+		try {
+			Workflow workflow = AdminController.withEmailStage(excelService.excelWorkflow(), () -> null);
+
+			assertEquals(List.of(), workflow.dependenciesOf(ExcelService.STAGE_RENAME));
+			assertEquals(List.of(ExcelService.STAGE_RENAME), workflow.dependenciesOf(ExcelService.STAGE_VUE_GLOBALE));
+			assertEquals(List.of(ExcelService.STAGE_VUE_GLOBALE), workflow.dependenciesOf(ExcelService.STAGE_CLEAR_TX));
+			assertEquals(List.of(ExcelService.STAGE_CLEAR_TX), workflow.dependenciesOf(ExcelService.STAGE_AFTER_TX3));
+			assertEquals(List.of(), workflow.dependenciesOf(ExcelService.STAGE_TEMPLATE));
+			assertEquals(List.of(ExcelService.STAGE_AFTER_TX3), workflow.dependenciesOf(AdminController.STAGE_EMAIL));
+		} finally {
+			excelService.shutdownWorkflowExecutor();
+		}
+	}
+
+	@Test
+	void writerWaitsForPreviousReaders() {
+		Workflow workflow = new Workflow(SAME_THREAD, "OK")
+				.stage("écriture", "=== écriture ===", Workflow.OnFailure.CONTINUE, ok("écriture"), VERIFICATION, VERIFICATION)
+				.stage("lecture", "=== lecture ===", Workflow.OnFailure.CONTINUE, ok("lecture"), VERIFICATION, List.of())
+				.stage("réécriture", "=== réécriture ===", Workflow.OnFailure.CONTINUE, ok("réécriture"), List.of(), VERIFICATION);
+
+		assertEquals(List.of("écriture", "lecture"), workflow.dependenciesOf("réécriture"));
+	}
+
+	@Test
+	void allStagesRunAndLogsFollowDeclarationOrder() {
+		Workflow workflow = excelLikeWorkflow(true, true, true);
+		TaskResult result = workflow.run();
+
+		assertTrue(result.isSuccess());
+		assertEquals("OK", result.getMessage());
+		assertEquals(List.of(
+				"=== ÉTAPE 1 ===", "log étape 1",
+				"=== ÉTAPE 2 ===", "log étape 2",
+				"=== ÉTAPE 3 ===", "log étape 3",
+				"=== ÉTAPE 4 ===", "log étape 4",
+				"=== ÉTAPE 5 ===", "log étape 5",
+				"=== ÉTAPE 6 ===", "log étape 6"), result.getLogs());
+	}
+
+	@Test
+	void abortSkipsDownstreamStagesIncludingEmail() {
+		Workflow workflow = excelLikeWorkflow(true, false, true);
+		TaskResult result = workflow.run();
+
+		assertFalse(result.isSuccess());
+		assertEquals("Erreur étape 2 : échec étape 2", result.getMessage());
+		assertFalse(executed.contains("étape 3"));
+		assertFalse(executed.contains("étape 4"));
+		assertFalse(executed.contains("étape 6"));
+		assertNull(workflow.result("étape 6"));
+		// Branche indépendante : le template est traité malgré l'interruption
+		assertTrue(executed.contains("étape 5"));
+		assertTrue(result.getLogs().contains("❌ échec étape 2"));
+		assertFalse(result.getLogs().contains("=== ÉTAPE 3 ==="));
+	}
+
+	@Test
+	void continueFailureDoesNotBlockDownstreamStages() {
+		Workflow workflow = excelLikeWorkflow(false, true, true);
+		TaskResult result = workflow.run();
+
+		assertTrue(result.isSuccess());
+		assertEquals(List.of("étape 1", "étape 2", "étape 3", "étape 4", "étape 5", "étape 6"), executed);
+		assertTrue(result.getLogs().contains("⚠️ échec étape 1 (traitement continué)"));
+		assertTrue(workflow.result("étape 6").isSuccess());
+	}
+
+	@Test
+	void exceptionIsReportedAsStageFailure() {
+		Workflow workflow = new Workflow(SAME_THREAD, "OK")
+				.stage("étape 1", "=== ÉTAPE 1 ===", Workflow.OnFailure.ABORT,
+						() -> { throw new IllegalStateException("boom"); }, VERIFICATION, VERIFICATION)
+				.stage("étape 2", "=== ÉTAPE 2 ===", Workflow.OnFailure.CONTINUE, ok("étape 2"), VERIFICATION, VERIFICATION);
+		TaskResult result = workflow.run();
+
+		assertFalse(result.isSuccess());
+		assertEquals("Erreur étape 1 : Erreur : boom", result.getMessage());
+		assertFalse(executed.contains("étape 2"));
+	}
+
+	/**
+	 * Même forme que le workflow Excel + email (vérifiée ci-dessus sur le vrai graphe), avec des
+	 * étapes dont on choisit le résultat : chaîne 1 → 2 → 3 → 4 → 6 et template (5) indépendant
+	 */
+	private Workflow excelLikeWorkflow(boolean step1Ok, boolean step2Ok, boolean step3Ok) {
+		return new Workflow(SAME_THREAD, "OK")
+				.stage("étape 1", "=== ÉTAPE 1 ===", Workflow.OnFailure.CONTINUE, task("étape 1", step1Ok), VERIFICATION, VERIFICATION)
+				.stage("étape 2", "=== ÉTAPE 2 ===", Workflow.OnFailure.ABORT, task("étape 2", step2Ok), VERIFICATION, VERIFICATION)
+				.stage("étape 3", "=== ÉTAPE 3 ===", Workflow.OnFailure.ABORT, task("étape 3", step3Ok), VERIFICATION, VERIFICATION)
+				.stage("étape 4", "=== ÉTAPE 4 ===", Workflow.OnFailure.CONTINUE, ok("étape 4"), VERIFICATION, VERIFICATION)
+				.stage("étape 5", "=== ÉTAPE 5 ===", Workflow.OnFailure.CONTINUE, ok("étape 5"), TEMPLATE, TEMPLATE)
+				.stage("étape 6", "=== ÉTAPE 6 ===", Workflow.OnFailure.CONTINUE, ok("étape 6"), VERIFICATION, List.of());
+	}
+
+	private Supplier<TaskResult> ok(String id) {
+		return task(id, true);
+	}
+
+	private Supplier<TaskResult> task(String id, boolean success) {
+		return () -> {
+			executed.add(id);
+			TaskResult result = new TaskResult(success, success ? "ok " + id : "échec " + id);
+			result.addLog("log " + id);
+			return result;
+		};
+	}
+
+}